@@ -3,11 +3,16 @@ package net.handsomesteve.api;
 import net.handsomesteve.api.ansi.AnsiColor;
 import net.handsomesteve.api.ansi.AnsiColorBackground;
 import net.handsomesteve.api.ansi.AnsiColorText;
+import net.handsomesteve.api.sink.ILogSink;
 
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -54,9 +59,11 @@ import java.util.Objects;
  * @see AnsiColor
  * @see AnsiColorText
  * @see AnsiColorBackground
+ * @see LogCategory
+ * @see ILogSink
  *
  * @author handsome-steve
- * @version 2.2.0
+ * @version 2.3.0
  * @since 1.0.0
  */
 
@@ -84,23 +91,183 @@ public final class ColorfulLogger
     }
 
     /**
-     * Flag to indicate if debugging is enabled.
+     * Prefix of the system properties that toggle debugging output at startup.
+     * {@code colorfulloggerlib.debug} overrides the initial state of every category,
+     * {@code colorfulloggerlib.debug.<name>} that of a single {@link LogCategory}.
      */
-    private boolean debug;
+    public static final String DEBUG_PROPERTY = "colorfulloggerlib.debug";
+
+    /**
+     * Bitmask of the enabled {@link LogCategory}s. Volatile so that toggles from another thread are visible
+     * to every logging thread, which only ever reads it once per call.
+     */
+    private volatile long debugMask;
+
+    /**
+     * Known categories, the built-in ones followed by those from {@link #registerCategory(String)}.
+     */
+    private final List<LogCategory> categories = new ArrayList<>(List.of(
+            LogCategory.GENERAL, LogCategory.INITIALIZING, LogCategory.REGISTERING, LogCategory.GENERATING, LogCategory.ERRORS
+    ));
+
+    /**
+     * Bits of {@link #categories}. {@link #setDebug(boolean)} also sets the bits of categories that are not registered
+     * yet, which must not count as enabled debugging.
+     */
+    private volatile long knownMask = (1L << LogCategory.BUILT_IN_COUNT) - 1L;
 
     /**
      * Checks if debugging is enabled.
      *
-     * @return true if debugging is enabled, false otherwise.
+     * @return true if debugging is enabled for at least one category, false otherwise.
      */
-    public boolean getDebug() { return this.debug; }
+    public boolean getDebug() { return (this.debugMask & this.knownMask) != 0L; }
 
     /**
-     * Sets the debugging state.
+     * Sets the debugging state of every category, including those registered later.
      *
      * @param value true to enable debugging, false to disable.
      */
-    public void setDebug(boolean value) { this.debug = value; }
+    public synchronized void setDebug(boolean value) { this.debugMask = value ? -1L : 0L; }
+
+    /**
+     * Checks if debugging output of a category is enabled.
+     *
+     * @param category the category to check.
+     * @return true if messages of {@code category} are printed, false otherwise.
+     */
+    public boolean isEnabled(@NotNull LogCategory category) { return (this.debugMask & category.getMask()) != 0L; }
+
+    /**
+     * Enables or disables debugging output of a single category.
+     *
+     * @param category the category to toggle.
+     * @param value true to enable debugging, false to disable.
+     */
+    public synchronized void setEnabled(@NotNull LogCategory category, boolean value)
+    {
+        this.debugMask = value ? this.debugMask | category.getMask() : this.debugMask & ~category.getMask();
+    }
+
+    /**
+     * Retrieves the category with the given name, or creates a user-defined one.
+     * A new category starts out enabled if {@link #setDebug(boolean)} last enabled everything, and can be overridden
+     * with the system property {@code colorfulloggerlib.debug.<name>}.
+     *
+     * @param name the name of the category, must not be null, empty or contain {@code .} or whitespace.
+     * @return the existing or newly created category.
+     * @throws NullPointerException if {@code name} is null.
+     * @throws IllegalArgumentException if {@code name} is empty or contains {@code .} or whitespace, which would not
+     *                                  map onto a single system property.
+     * @throws IllegalStateException if all bits of the debug mask are taken.
+     */
+    @NotNull
+    public synchronized LogCategory registerCategory(@NotNull String name)
+    {
+        Objects.requireNonNull(name, "[ERROR]: Parameter 'name' cannot be null at '@ColorfulLogger.registerCategory(String)'.");
+        if(name.isEmpty() || name.chars().anyMatch(c -> c == '.' || Character.isWhitespace(c)))
+            throw new IllegalArgumentException(String.format("[ERROR]: Category name '%s' must not be empty or contain '.' or whitespace at '@ColorfulLogger.registerCategory(String)'.", name));
+        LogCategory existing = getCategory(name);
+        if(existing != null)
+            return existing;
+        if(categories.size() >= LogCategory.MAX_COUNT)
+            throw new IllegalStateException(String.format("[ERROR]: No more than %d categories can be registered at '@ColorfulLogger.registerCategory(String)'.", LogCategory.MAX_COUNT));
+
+        LogCategory category = new LogCategory(name, categories.size());
+        categories.add(category);
+        knownMask |= category.getMask();
+        applyDebugProperty(category);
+        return category;
+    }
+
+    /**
+     * Retrieves a built-in or registered category by its name.
+     *
+     * @param name the name of the category.
+     * @return the category, or null if there is none with that name.
+     */
+    @Nullable
+    public synchronized LogCategory getCategory(String name)
+    {
+        for(LogCategory category : categories) {
+            if(category.getName().equals(name))
+                return category;
+        }
+        return null;
+    }
+
+    /**
+     * Applies the system properties {@code colorfulloggerlib.debug} and {@code colorfulloggerlib.debug.<name>} of
+     * every known category. Package-private for tests, it otherwise only runs in the constructors.
+     */
+    synchronized void applyDebugProperties()
+    {
+        String all = System.getProperty(DEBUG_PROPERTY);
+        if(all != null)
+            setDebug(Boolean.parseBoolean(all));
+        for(LogCategory category : categories)
+            applyDebugProperty(category);
+    }
+
+    private void applyDebugProperty(LogCategory category)
+    {
+        String value = System.getProperty(DEBUG_PROPERTY + "." + category.getName());
+        if(value != null)
+            setEnabled(category, Boolean.parseBoolean(value));
+    }
+
+    /**
+     * Optional destination of every printed message, see {@link ILogSink}. The sink and its mode are kept in one
+     * volatile reference so that a logging thread never sees the sink of one call with the mode of another.
+     */
+    private volatile SinkBinding sinkBinding;
+
+    /**
+     * A sink together with whether it replaces the internal {@link org.slf4j.Logger}.
+     */
+    private record SinkBinding(ILogSink sink, boolean exclusive) {}
+
+    /**
+     * Retrieves the current sink.
+     *
+     * @return the active {@link ILogSink}, or null if none is set.
+     */
+    @Nullable
+    public ILogSink getSink()
+    {
+        SinkBinding binding = this.sinkBinding;
+        return binding == null ? null : binding.sink();
+    }
+
+    /**
+     * Checks if the current sink is the only output.
+     *
+     * @return true if a sink is set and messages bypass the internal {@link org.slf4j.Logger}, false otherwise.
+     */
+    public boolean isSinkExclusive()
+    {
+        SinkBinding binding = this.sinkBinding;
+        return binding != null && binding.exclusive();
+    }
+
+    /**
+     * Sets a sink that receives every printed message in addition to the internal {@link org.slf4j.Logger}.
+     *
+     * @param sink the sink to use, or null to remove the current one.
+     */
+    public void setSink(@Nullable ILogSink sink) { setSink(sink, false); }
+
+    /**
+     * Sets a sink that receives every printed message.
+     *
+     * @param sink the sink to use, or null to remove the current one and print through the internal {@link org.slf4j.Logger} only.
+     * @param exclusive true to make the sink the only output, so that messages no longer reach the internal
+     *                  {@link org.slf4j.Logger} and its console or file I/O; false to print through both.
+     */
+    public void setSink(@Nullable ILogSink sink, boolean exclusive)
+    {
+        this.sinkBinding = sink == null ? null : new SinkBinding(sink, exclusive);
+    }
 
     /**
      * Private constructor for creating a logger instance with a mod identifier.
@@ -110,7 +277,8 @@ public final class ColorfulLogger
     private ColorfulLogger(@NotNull String modId)
     {
         this.LOGGER = Objects.requireNonNull(LoggerFactory.getLogger(modId));
-        this.debug = true;
+        setDebug(true);
+        applyDebugProperties();
     }
 
     /**
@@ -122,7 +290,8 @@ public final class ColorfulLogger
     private ColorfulLogger(@NotNull String modId, boolean showDebug)
     {
         this.LOGGER = Objects.requireNonNull(LoggerFactory.getLogger(modId));
-        this.debug = showDebug;
+        setDebug(showDebug);
+        applyDebugProperties();
     }
 
     /**
@@ -189,8 +358,7 @@ public final class ColorfulLogger
      */
     public void info(String message)
     {
-        if(debug)
-            LOGGER.info(message);
+        info(LogCategory.GENERAL, message);
     }
 
     /**
@@ -201,8 +369,7 @@ public final class ColorfulLogger
      */
     public void info(String message, AnsiColorText ansiColorText)
     {
-        if(debug)
-            LOGGER.info("{}{}{}", ansiColorText.getValue(), message, AnsiColor.ANSI_RESET.getValue());
+        info(LogCategory.GENERAL, message, ansiColorText);
     }
 
     /**
@@ -214,8 +381,95 @@ public final class ColorfulLogger
      */
     public void info(String message, AnsiColorText ansiColorText, AnsiColorBackground ansiColorBackground)
     {
-        if(debug)
+        info(LogCategory.GENERAL, message, ansiColorText, ansiColorBackground);
+    }
+
+    /**
+     * <Overload method that prints out a plain message of a {@link LogCategory}, if that category is enabled.
+     *
+     * @param category Takes the {@link LogCategory} of the message.
+     * @param message Takes the message to be printed out as a {@link String}.
+     */
+    public void info(LogCategory category, String message)
+    {
+        if(isEnabled(category))
+            infoUnchecked(message);
+    }
+
+    /**
+     * <Overload method that prints out a message of a {@link LogCategory} by coloring the foreground only, if that category is enabled.
+     *
+     * @param category Takes the {@link LogCategory} of the message.
+     * @param message Takes the message to be printed out as a {@link String}.
+     * @param ansiColorText Takes an ANSI color value from {@link AnsiColorText}.
+     */
+    public void info(LogCategory category, String message, AnsiColorText ansiColorText)
+    {
+        if(isEnabled(category))
+            infoUnchecked(message, ansiColorText);
+    }
+
+    /**
+     * <Overload method that prints out a message of a {@link LogCategory} by coloring the foreground and background, if that category is enabled.
+     *
+     * @param category Takes the {@link LogCategory} of the message.
+     * @param message Takes the message to be printed out as a {@link String}.
+     * @param ansiColorText Takes an ANSI color value from {@link AnsiColorText}.
+     * @param ansiColorBackground Takes an ANSI color value from {@link AnsiColorBackground}.
+     */
+    public void info(LogCategory category, String message, AnsiColorText ansiColorText, AnsiColorBackground ansiColorBackground)
+    {
+        if(isEnabled(category))
+            infoUnchecked(message, ansiColorText, ansiColorBackground);
+    }
+
+    /**
+     * Prints out a plain message without reading the debug mask. Callers that already checked
+     * {@link #isEnabled(LogCategory)}, such as {@code LoggerOutputSnippets}, use it so that each message reads the mask once.
+     *
+     * @param message Takes the message to be printed out as a {@link String}.
+     */
+    @ApiStatus.Internal
+    public void infoUnchecked(String message)
+    {
+        SinkBinding binding = this.sinkBinding;
+        if(binding == null || !binding.exclusive())
+            LOGGER.info(message);
+        if(binding != null)
+            binding.sink().accept(message, null, null);
+    }
+
+    /**
+     * Prints out a message by coloring the foreground only, without reading the debug mask, see {@link #infoUnchecked(String)}.
+     *
+     * @param message Takes the message to be printed out as a {@link String}.
+     * @param ansiColorText Takes an ANSI color value from {@link AnsiColorText}.
+     */
+    @ApiStatus.Internal
+    public void infoUnchecked(String message, AnsiColorText ansiColorText)
+    {
+        SinkBinding binding = this.sinkBinding;
+        if(binding == null || !binding.exclusive())
+            LOGGER.info("{}{}{}", ansiColorText.getValue(), message, AnsiColor.ANSI_RESET.getValue());
+        if(binding != null)
+            binding.sink().accept(message, ansiColorText, null);
+    }
+
+    /**
+     * Prints out a message by coloring the foreground and background, without reading the debug mask, see {@link #infoUnchecked(String)}.
+     *
+     * @param message Takes the message to be printed out as a {@link String}.
+     * @param ansiColorText Takes an ANSI color value from {@link AnsiColorText}.
+     * @param ansiColorBackground Takes an ANSI color value from {@link AnsiColorBackground}.
+     */
+    @ApiStatus.Internal
+    public void infoUnchecked(String message, AnsiColorText ansiColorText, AnsiColorBackground ansiColorBackground)
+    {
+        SinkBinding binding = this.sinkBinding;
+        if(binding == null || !binding.exclusive())
             LOGGER.info("{}{}{}{}", ansiColorText.getValue(), ansiColorBackground.getValue(), message, AnsiColor.ANSI_RESET.getValue());
+        if(binding != null)
+            binding.sink().accept(message, ansiColorText, ansiColorBackground);
     }
 
 }
@@ -0,0 +1,90 @@
+package net.handsomesteve.api;
+
+import net.handsomesteve.logger.LoggerOutputSnippets;
+
+/**
+ * <p>Package {@link net.handsomesteve.api}</p>
+ *
+ * <h2>Log Category</h2>
+ * <p>{@code public final class}</p>
+ * <p>
+ * A category of {@link ColorfulLogger} output that can be shown or silenced on its own.
+ * Every category owns a single bit of the logger's debug mask, so checking whether it is enabled costs a single read.
+ * The built-in categories are declared below; additional ones are created with {@link ColorfulLogger#registerCategory(String)}.
+ * </p>
+ *
+ * <p>Categories can be toggled at runtime through {@link ColorfulLogger#setEnabled(LogCategory, boolean)}, or at startup with the
+ * system property {@code -Dcolorfulloggerlib.debug.<name>=true|false}.</p>
+ *
+ * @see ColorfulLogger
+ * @see LoggerOutputSnippets
+ *
+ * @author handsome-steve
+ * @version 2.3.0
+ * @since 2.3.0
+ */
+public final class LogCategory
+{
+    /**
+     * Messages of the {@link ColorfulLogger#info(String)} overloads that do not take a category.
+     */
+    public static final LogCategory GENERAL = new LogCategory("general", 0);
+
+    /**
+     * Messages of {@link LoggerOutputSnippets#initializingSnippet}.
+     */
+    public static final LogCategory INITIALIZING = new LogCategory("initializing", 1);
+
+    /**
+     * Messages of {@link LoggerOutputSnippets#registeringSnippet}.
+     */
+    public static final LogCategory REGISTERING = new LogCategory("registering", 2);
+
+    /**
+     * Messages of {@link LoggerOutputSnippets#generatingSnippet}.
+     */
+    public static final LogCategory GENERATING = new LogCategory("generating", 3);
+
+    /**
+     * Error output.
+     */
+    public static final LogCategory ERRORS = new LogCategory("errors", 4);
+
+    /**
+     * Number of bits taken by the built-in categories, user-defined categories start at this bit.
+     */
+    static final int BUILT_IN_COUNT = 5;
+
+    /**
+     * Maximum number of categories, bounded by the width of the debug mask.
+     */
+    static final int MAX_COUNT = Long.SIZE;
+
+    private final String name;
+    private final long mask;
+
+    /**
+     * Package-private constructor, user-defined categories are created by {@link ColorfulLogger#registerCategory(String)}.
+     *
+     * @param name the name of the category, also used for its system property.
+     * @param bit the index of the bit owned by the category.
+     */
+    LogCategory(String name, int bit)
+    {
+        this.name = name;
+        this.mask = 1L << bit;
+    }
+
+    /**
+     * @return the name of the category.
+     */
+    public String getName() { return this.name; }
+
+    /**
+     * @return a mask with only the bit of this category set.
+     */
+    public long getMask() { return this.mask; }
+
+    @Override
+    public String toString() { return this.name; }
+}
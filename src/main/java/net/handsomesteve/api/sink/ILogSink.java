@@ -0,0 +1,34 @@
+package net.handsomesteve.api.sink;
+
+import net.handsomesteve.api.ColorfulLogger;
+import net.handsomesteve.api.ansi.AnsiColorBackground;
+import net.handsomesteve.api.ansi.AnsiColorText;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Interface for additional destinations of {@link ColorfulLogger} output.
+ * A sink receives every message that {@link ColorfulLogger} prints, together with the colors it was printed in,
+ * so that the output can be shipped elsewhere without going through the internal {@link org.slf4j.Logger}.
+ *
+ * <p>Implementations are called on the logging thread and must therefore be thread-safe and should not block.</p>
+ *
+ * @see ColorfulLogger#setSink(ILogSink)
+ * @see UnixDomainSocketSink
+ *
+ * @author handsome-steve
+ * @version 2.3.0
+ * @since 2.3.0
+ */
+public interface ILogSink {
+
+    /**
+     * Accepts a single message printed by {@link ColorfulLogger}.
+     *
+     * @param message the message as passed to {@link ColorfulLogger}.
+     * @param colorText the foreground color, or null if the message is plain.
+     * @param colorBackground the background color, or null if the message has none.
+     */
+    void accept(String message, @Nullable AnsiColorText colorText, @Nullable AnsiColorBackground colorBackground);
+
+}
@@ -0,0 +1,15 @@
+package net.handsomesteve.api.sink;
+
+/**
+ * A single rendered log line as shipped by {@link UnixDomainSocketSink} and read by the collector.
+ *
+ * @param source the identifier of the sending process, usually the mod identifier.
+ * @param epochMillis the time the message was logged, in milliseconds since the epoch.
+ * @param line the message including its ANSI color codes.
+ *
+ * @author handsome-steve
+ * @version 2.3.0
+ * @since 2.3.0
+ */
+public record LogEvent(String source, long epochMillis, String line) {
+}
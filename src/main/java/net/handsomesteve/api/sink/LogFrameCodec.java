@@ -0,0 +1,222 @@
+package net.handsomesteve.api.sink;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for the length-prefixed frames exchanged between {@link UnixDomainSocketSink} and the collector.
+ *
+ * <p>Each frame carries one batch of {@link LogEvent}s from a single source. All integers are big-endian,
+ * all strings UTF-8:</p>
+ * <pre>{@code
+ * int    length        // number of bytes following this field
+ * int    sourceLength
+ * byte[] source
+ * int    eventCount
+ * eventCount times:
+ *     long   epochMillis
+ *     int    lineLength
+ *     byte[] line
+ * }</pre>
+ *
+ * <p>The collector acknowledges every frame with a single {@code int} holding the number of events it read from it,
+ * including any its renderer failed on. The sender only discards a batch once it has read an acknowledgement of the
+ * whole batch, and handles any other count like a failed write.</p>
+ *
+ * <p>This class cannot be instantiated.</p>
+ *
+ * @author handsome-steve
+ * @version 2.3.0
+ * @since 2.3.0
+ */
+public abstract class LogFrameCodec {
+
+    /**
+     * Upper bound of a frame's length, guarding the reader against corrupt or hostile length prefixes.
+     * The sender splits batches so that no frame exceeds it.
+     */
+    public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private LogFrameCodec() { throw new AssertionError(); }
+
+    /**
+     * Encodes a batch of events into a single frame, ready to be written to a channel.
+     *
+     * @param source the identifier of the sending process.
+     * @param events the events of the batch, the source of each event is not written.
+     * @return a buffer positioned at the start of the frame.
+     * @throws IllegalArgumentException if the frame would exceed {@link #MAX_FRAME_LENGTH}.
+     */
+    public static ByteBuffer encode(String source, List<LogEvent> events)
+    {
+        byte[] sourceBytes = source.getBytes(StandardCharsets.UTF_8);
+        byte[][] lines = new byte[events.size()][];
+        long length = Integer.BYTES + sourceBytes.length + Integer.BYTES;
+        for(int i = 0; i < lines.length; i++) {
+            lines[i] = events.get(i).line().getBytes(StandardCharsets.UTF_8);
+            length += Long.BYTES + Integer.BYTES + lines[i].length;
+        }
+        if(length > MAX_FRAME_LENGTH)
+            throw new IllegalArgumentException(String.format("[ERROR]: Frame of %d bytes exceeds the maximum of %d bytes at '@LogFrameCodec.encode(String, List)'.", length, MAX_FRAME_LENGTH));
+
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + (int) length);
+        frame.putInt((int) length);
+        frame.putInt(sourceBytes.length).put(sourceBytes);
+        frame.putInt(lines.length);
+        for(int i = 0; i < lines.length; i++)
+            frame.putLong(events.get(i).epochMillis()).putInt(lines[i].length).put(lines[i]);
+        return frame.flip();
+    }
+
+    /**
+     * Computes the number of bytes the source and event count take up in a frame, excluding the length prefix.
+     *
+     * @param source the identifier of the sending process.
+     * @return the length of the frame header.
+     */
+    public static long headerLength(String source)
+    {
+        return Integer.BYTES + utf8Length(source) + Integer.BYTES;
+    }
+
+    /**
+     * Computes the number of bytes an event takes up in a frame, without encoding it.
+     *
+     * @param event the event.
+     * @return the encoded length of the event.
+     */
+    public static long eventLength(LogEvent event)
+    {
+        return Long.BYTES + Integer.BYTES + utf8Length(event.line());
+    }
+
+    /**
+     * Counts the bytes of {@code value} in UTF-8 the way {@link String#getBytes(java.nio.charset.Charset)} encodes it,
+     * including the single replacement byte of an unpaired surrogate.
+     */
+    private static long utf8Length(String value)
+    {
+        long length = 0L;
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c < 0x80) {
+                length += 1;
+            } else if(c < 0x800) {
+                length += 2;
+            } else if(Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if(Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Reads and decodes the next frame from a blocking channel.
+     *
+     * @param channel the channel to read from.
+     * @return the events of the frame, or null if the channel reached its end between frames.
+     * @throws IOException if reading fails, the channel ends inside a frame, or the frame is malformed.
+     */
+    public static List<LogEvent> read(ReadableByteChannel channel) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        if(!readFully(channel, header, true))
+            return null;
+        int length = header.flip().getInt();
+        if(length < 2 * Integer.BYTES || length > MAX_FRAME_LENGTH)
+            throw new IOException(String.format("[ERROR]: Invalid frame length of %d bytes at '@LogFrameCodec.read(ReadableByteChannel)'.", length));
+
+        ByteBuffer frame = ByteBuffer.allocate(length);
+        readFully(channel, frame, false);
+        frame.flip();
+        try {
+            String source = getString(frame);
+            int count = frame.getInt();
+            if(count < 0 || count > frame.remaining() / (Long.BYTES + Integer.BYTES))
+                throw new IOException(String.format("[ERROR]: Invalid event count of %d at '@LogFrameCodec.read(ReadableByteChannel)'.", count));
+            List<LogEvent> events = new ArrayList<>(Math.min(count, 1024));
+            for(int i = 0; i < count; i++) {
+                long epochMillis = frame.getLong();
+                events.add(new LogEvent(source, epochMillis, getString(frame)));
+            }
+            return events;
+        } catch (RuntimeException e) {
+            throw new IOException("[ERROR]: Malformed frame at '@LogFrameCodec.read(ReadableByteChannel)'.", e);
+        }
+    }
+
+    /**
+     * Writes the acknowledgement of a frame.
+     *
+     * @param channel the channel the frame was read from.
+     * @param eventCount the number of events of the frame.
+     * @throws IOException if writing fails.
+     */
+    public static void writeAck(WritableByteChannel channel, int eventCount) throws IOException
+    {
+        ByteBuffer ack = ByteBuffer.allocate(Integer.BYTES).putInt(eventCount).flip();
+        while(ack.hasRemaining())
+            channel.write(ack);
+    }
+
+    /**
+     * Reads the acknowledgement of a frame.
+     *
+     * @param channel the channel the frame was written to.
+     * @return the number of events the collector read from the frame.
+     * @throws IOException if reading fails or the channel ended before the acknowledgement.
+     */
+    public static int readAck(ReadableByteChannel channel) throws IOException
+    {
+        ByteBuffer ack = ByteBuffer.allocate(Integer.BYTES);
+        readFully(channel, ack, false);
+        return ack.flip().getInt();
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string from the current position of {@code frame}.
+     *
+     * @throws IOException if the length is negative or exceeds the rest of the frame, checked before allocating.
+     */
+    private static String getString(ByteBuffer frame) throws IOException
+    {
+        int length = frame.getInt();
+        if(length < 0 || length > frame.remaining())
+            throw new IOException(String.format("[ERROR]: Invalid string length of %d bytes with %d bytes left in the frame at '@LogFrameCodec.getString(ByteBuffer)'.", length, frame.remaining()));
+        byte[] bytes = new byte[length];
+        frame.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fills {@code buffer} from {@code channel}.
+     *
+     * @return false if the channel ended before any byte was read and {@code endAllowed} is set.
+     * @throws EOFException if the channel ended after part of the buffer was read.
+     */
+    private static boolean readFully(ReadableByteChannel channel, ByteBuffer buffer, boolean endAllowed) throws IOException
+    {
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer) < 0) {
+                if(endAllowed && buffer.position() == 0)
+                    return false;
+                throw new EOFException("[ERROR]: Channel ended inside a frame at '@LogFrameCodec.readFully(ReadableByteChannel, ByteBuffer, boolean)'.");
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,337 @@
+package net.handsomesteve.api.sink;
+
+import net.handsomesteve.api.ColorfulLogger;
+import net.handsomesteve.api.ansi.AnsiColor;
+import net.handsomesteve.api.ansi.AnsiColorBackground;
+import net.handsomesteve.api.ansi.AnsiColorText;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link ILogSink} that ships {@link ColorfulLogger} output to a collector process over a Unix domain socket.
+ *
+ * <p>Messages are rendered with their ANSI colors on the logging thread and put in a bounded local queue.
+ * A single background thread drains the queue in batches, encodes every batch as one frame with
+ * {@link LogFrameCodec} and writes it to the socket. A batch is only discarded once the collector has acknowledged
+ * it; if the collector is not reachable, the thread keeps the batch and reconnects with an exponential backoff.
+ * A batch whose acknowledgement was lost is sent again, so the collector may see it twice. While the thread is
+ * disconnected the queue keeps accepting messages; once it is full the oldest messages are dropped and counted
+ * by {@link #getDroppedCount()}. Batches are split so that no frame exceeds {@link LogFrameCodec#MAX_FRAME_LENGTH};
+ * a single message too large for any frame is dropped and counted the same way.</p>
+ *
+ * <h3>Typical usage pattern:
+ *
+ * <pre>{@code
+ * UnixDomainSocketSink sink = UnixDomainSocketSink.connect(Path.of("/tmp/colorfulloggerlib.sock"), "your-mod-id");
+ * ColorfulLogger.getInstance("your-mod-id", true).setSink(sink, true);
+ * }</pre>
+ *
+ * @see LogFrameCodec
+ * @see net.handsomesteve.collector.LogCollector
+ *
+ * @author handsome-steve
+ * @version 2.3.0
+ * @since 2.3.0
+ */
+public final class UnixDomainSocketSink implements ILogSink, AutoCloseable
+{
+    /**
+     * Default number of messages buffered locally while the collector is slow or unreachable.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * Default maximum number of messages per frame.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    /**
+     * Default time in milliseconds the sender waits for a first message before checking whether it was closed.
+     */
+    public static final long DEFAULT_LINGER_MILLIS = 50L;
+
+    /**
+     * Default upper bound in milliseconds of the delay between reconnect attempts.
+     */
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 5_000L;
+
+    private static final long INITIAL_BACKOFF_MILLIS = 10L;
+
+    private final UnixDomainSocketAddress address;
+    private final String source;
+    private final long headerLength;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final long maxBackoffMillis;
+
+    private final BlockingQueue<LogEvent> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final Thread sender;
+
+    private volatile boolean running = true;
+    private SocketChannel channel;
+
+    /**
+     * Event that did not fit in the previous frame, only accessed by the sender thread.
+     */
+    private LogEvent carry;
+
+    /**
+     * Private constructor, use {@link #connect(Path, String)} or {@link #connect(Path, String, int, int, long, long)}.
+     */
+    private UnixDomainSocketSink(Path socketPath, String source, int capacity, int maxBatchSize, long lingerMillis, long maxBackoffMillis)
+    {
+        this.address = UnixDomainSocketAddress.of(socketPath);
+        this.source = source;
+        this.headerLength = LogFrameCodec.headerLength(source);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMillis = lingerMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sender = Thread.ofPlatform()
+                .name("colorfulloggerlib-uds-sink")
+                .daemon(true)
+                .unstarted(this::run);
+    }
+
+    /**
+     * Creates a sink with default buffering and starts its sender thread.
+     * The collector does not need to be running yet.
+     *
+     * @param socketPath the path of the collector's socket, must not be null.
+     * @param source the identifier shown next to every line by the collector, must not be null.
+     * @return the started sink.
+     * @throws NullPointerException if {@code socketPath} or {@code source} is null.
+     */
+    @NotNull
+    public static UnixDomainSocketSink connect(@NotNull Path socketPath, @NotNull String source)
+    {
+        return connect(socketPath, source, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, DEFAULT_LINGER_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS);
+    }
+
+    /**
+     * Creates a sink and starts its sender thread.
+     * The collector does not need to be running yet.
+     *
+     * @param socketPath the path of the collector's socket, must not be null.
+     * @param source the identifier shown next to every line by the collector, must not be null.
+     * @param capacity the number of messages buffered locally before the oldest are dropped.
+     * @param maxBatchSize the maximum number of messages per frame.
+     * @param lingerMillis the time the sender waits for a message before checking whether it was closed.
+     * @param maxBackoffMillis the upper bound of the delay between reconnect attempts.
+     * @return the started sink.
+     * @throws NullPointerException if {@code socketPath} or {@code source} is null.
+     * @throws IllegalArgumentException if any of the numeric parameters is not positive, or {@code source} takes up more than half a frame.
+     */
+    @NotNull
+    public static UnixDomainSocketSink connect(@NotNull Path socketPath, @NotNull String source, int capacity, int maxBatchSize, long lingerMillis, long maxBackoffMillis)
+    {
+        Objects.requireNonNull(socketPath, "[ERROR]: Parameter 'socketPath' cannot be null at '@UnixDomainSocketSink.connect(Path, String, int, int, long, long)'.");
+        Objects.requireNonNull(source, "[ERROR]: Parameter 'source' cannot be null at '@UnixDomainSocketSink.connect(Path, String, int, int, long, long)'.");
+        if(capacity <= 0 || maxBatchSize <= 0 || lingerMillis <= 0 || maxBackoffMillis <= 0)
+            throw new IllegalArgumentException("[IllegalArgumentException]: Buffer sizes and delays must be positive when calling '@UnixDomainSocketSink.connect(Path, String, int, int, long, long)'.");
+        if(LogFrameCodec.headerLength(source) > LogFrameCodec.MAX_FRAME_LENGTH / 2)
+            throw new IllegalArgumentException("[IllegalArgumentException]: Parameter 'source' must not take up more than half a frame when calling '@UnixDomainSocketSink.connect(Path, String, int, int, long, long)'.");
+
+        UnixDomainSocketSink sink = new UnixDomainSocketSink(socketPath, source, capacity, maxBatchSize, lingerMillis, maxBackoffMillis);
+        sink.sender.start();
+        return sink;
+    }
+
+    /**
+     * Renders the message with its colors and queues it for the sender thread, dropping the oldest queued
+     * message if the local buffer is full. Messages accepted after {@link #close()} are ignored.
+     *
+     * @param message the message as passed to {@link ColorfulLogger}.
+     * @param colorText the foreground color, or null if the message is plain.
+     * @param colorBackground the background color, or null if the message has none.
+     */
+    @Override
+    public void accept(String message, @Nullable AnsiColorText colorText, @Nullable AnsiColorBackground colorBackground)
+    {
+        if(!running)
+            return;
+
+        LogEvent event = new LogEvent(source, System.currentTimeMillis(), render(message, colorText, colorBackground));
+        while(!queue.offer(event)) {
+            if(queue.poll() != null)
+                dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of messages dropped because the local buffer was full or because they were too large for a frame.
+     */
+    public long getDroppedCount() { return dropped.get(); }
+
+    /**
+     * @return the number of messages acknowledged by the collector.
+     */
+    public long getSentCount() { return sent.get(); }
+
+    /**
+     * Stops accepting messages, tries to flush the remaining ones within {@code timeoutMillis} and closes the socket.
+     *
+     * @param timeoutMillis the maximum time to wait for the flush.
+     * @throws InterruptedException if interrupted while waiting for the sender thread.
+     */
+    public void close(long timeoutMillis) throws InterruptedException
+    {
+        running = false;
+        sender.join(timeoutMillis);
+        if(sender.isAlive()) {
+            sender.interrupt();
+            sender.join();
+        }
+    }
+
+    /**
+     * Stops accepting messages, tries to flush the remaining ones within one second and closes the socket.
+     */
+    @Override
+    public void close()
+    {
+        try {
+            close(1_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Body of the sender thread. Nothing in here may end the thread while the sink is running,
+     * whatever the content of the messages.
+     */
+    private void run()
+    {
+        List<LogEvent> batch = new ArrayList<>(maxBatchSize);
+        ByteBuffer frame = null;
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+        try {
+            while(running || frame != null || carry != null || !queue.isEmpty()) {
+                if(frame == null) {
+                    fillBatch(batch);
+                    if(batch.isEmpty())
+                        continue;
+                    try {
+                        frame = LogFrameCodec.encode(source, batch);
+                    } catch (RuntimeException e) {
+                        // fillBatch keeps frames below the limit, this only guards against a miscount.
+                        dropped.addAndGet(batch.size());
+                        batch.clear();
+                        continue;
+                    }
+                }
+
+                try {
+                    write(frame.rewind(), batch.size());
+                    sent.addAndGet(batch.size());
+                    batch.clear();
+                    frame = null;
+                    backoffMillis = INITIAL_BACKOFF_MILLIS;
+                } catch (IOException e) {
+                    closeChannel();
+                    if(!running)
+                        break;
+                    Thread.sleep(backoffMillis);
+                    backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeChannel();
+        }
+    }
+
+    /**
+     * Moves queued events into {@code batch}, up to {@link #maxBatchSize} events and {@link LogFrameCodec#MAX_FRAME_LENGTH} bytes.
+     * An event that does not fit is carried over to the next batch, an event too large for any frame is dropped.
+     */
+    private void fillBatch(List<LogEvent> batch) throws InterruptedException
+    {
+        LogEvent next = carry != null ? carry : queue.poll(lingerMillis, TimeUnit.MILLISECONDS);
+        carry = null;
+        long length = headerLength;
+        while(next != null) {
+            long eventLength = LogFrameCodec.eventLength(next);
+            if(headerLength + eventLength > LogFrameCodec.MAX_FRAME_LENGTH) {
+                dropped.incrementAndGet();
+            } else if(length + eventLength > LogFrameCodec.MAX_FRAME_LENGTH) {
+                carry = next;
+                return;
+            } else {
+                batch.add(next);
+                length += eventLength;
+                if(batch.size() >= maxBatchSize)
+                    return;
+            }
+            next = queue.poll();
+        }
+    }
+
+    /**
+     * Writes a whole frame and waits for its acknowledgement, connecting first if necessary.
+     *
+     * @throws IOException if writing fails or the acknowledged count is not {@code eventCount}.
+     */
+    private void write(ByteBuffer frame, int eventCount) throws IOException
+    {
+        if(channel == null) {
+            SocketChannel connecting = SocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                connecting.connect(address);
+            } catch (IOException e) {
+                connecting.close();
+                throw e;
+            }
+            channel = connecting;
+        }
+        while(frame.hasRemaining())
+            channel.write(frame);
+        int acknowledged = LogFrameCodec.readAck(channel);
+        if(acknowledged != eventCount)
+            throw new IOException(String.format("[ERROR]: Collector acknowledged %d of %d events at '@UnixDomainSocketSink.write(ByteBuffer, int)'.", acknowledged, eventCount));
+    }
+
+    private void closeChannel()
+    {
+        if(channel == null)
+            return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // The connection is being discarded either way.
+        }
+        channel = null;
+    }
+
+    /**
+     * Renders a message the same way {@link ColorfulLogger} prints it.
+     */
+    private static String render(String message, @Nullable AnsiColorText colorText, @Nullable AnsiColorBackground colorBackground)
+    {
+        if(colorText == null && colorBackground == null)
+            return message;
+        return (colorText == null ? "" : colorText.getValue())
+                + (colorBackground == null ? "" : colorBackground.getValue())
+                + message
+                + AnsiColor.ANSI_RESET.getValue();
+    }
+}
@@ -0,0 +1,272 @@
+package net.handsomesteve.collector;
+
+import net.handsomesteve.api.ansi.AnsiColor;
+import net.handsomesteve.api.ansi.AnsiColorText;
+import net.handsomesteve.api.sink.LogEvent;
+import net.handsomesteve.api.sink.LogFrameCodec;
+import net.handsomesteve.api.sink.UnixDomainSocketSink;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Small collector process that merges the output of several {@link UnixDomainSocketSink}s into one stream.
+ *
+ * <p>The collector listens on a Unix domain socket, reads the frames of every connected process on its own
+ * virtual thread and hands each {@link LogEvent} to a single renderer before acknowledging the frame.
+ * Events of different processes are interleaved in the order their frames arrive. The default renderer prints
+ * every line to {@link System#out}, prefixed with its time and its colored source.</p>
+ *
+ * <h3>Running the bundled collector:
+ *
+ * <pre>{@code
+ * java -cp colorfulloggerlib.jar net.handsomesteve.collector.LogCollector /tmp/colorfulloggerlib.sock
+ * }</pre>
+ *
+ * @see UnixDomainSocketSink
+ * @see LogFrameCodec
+ *
+ * @author handsome-steve
+ * @version 2.3.0
+ * @since 2.3.0
+ */
+public final class LogCollector implements AutoCloseable
+{
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    /**
+     * Colors assigned to sources, picked by the hash of the source so that each process keeps its color.
+     */
+    private static final AnsiColorText[] SOURCE_COLORS = {
+            AnsiColorText.ANSI_BRIGHT_CYAN, AnsiColorText.ANSI_BRIGHT_MAGENTA, AnsiColorText.ANSI_BRIGHT_YELLOW,
+            AnsiColorText.ANSI_BRIGHT_BLUE, AnsiColorText.ANSI_BRIGHT_GREEN, AnsiColorText.ANSI_BRIGHT_WHITE
+    };
+
+    private final Path socketPath;
+    private final Consumer<LogEvent> renderer;
+    private final ReentrantLock renderLock = new ReentrantLock();
+    private final ServerSocketChannel server;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    /**
+     * Private constructor, use {@link #start(Path)} or {@link #start(Path, Consumer)}.
+     */
+    private LogCollector(Path socketPath, Consumer<LogEvent> renderer) throws IOException
+    {
+        this.socketPath = socketPath;
+        this.renderer = renderer;
+        removeStaleSocket(socketPath);
+        this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            this.server.bind(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException e) {
+            this.server.close();
+            throw e;
+        }
+        this.acceptor = Thread.ofPlatform().name("colorfulloggerlib-collector").unstarted(this::acceptLoop);
+    }
+
+    /**
+     * Starts a collector that prints every line to {@link System#out}.
+     *
+     * @param socketPath the path to listen on, a stale socket file left behind at this path is replaced.
+     * @return the running collector.
+     * @throws FileAlreadyExistsException if the path is taken by anything other than a stale socket.
+     * @throws IOException if the socket cannot be bound.
+     */
+    @NotNull
+    public static LogCollector start(@NotNull Path socketPath) throws IOException
+    {
+        return start(socketPath, LogCollector.printingTo(System.out));
+    }
+
+    /**
+     * Starts a collector that hands every event to {@code renderer}.
+     * The renderer is only ever called by one thread at a time. An event it throws a {@link RuntimeException} on
+     * is reported to {@link System#err} and skipped.
+     *
+     * @param socketPath the path to listen on, a stale socket file left behind at this path is replaced.
+     * @param renderer the consumer of merged events.
+     * @return the running collector.
+     * @throws FileAlreadyExistsException if the path is taken by anything other than a stale socket.
+     * @throws IOException if the socket cannot be bound.
+     * @throws NullPointerException if {@code socketPath} or {@code renderer} is null.
+     */
+    @NotNull
+    public static LogCollector start(@NotNull Path socketPath, @NotNull Consumer<LogEvent> renderer) throws IOException
+    {
+        LogCollector collector = new LogCollector(
+                Objects.requireNonNull(socketPath, "[ERROR]: Parameter 'socketPath' cannot be null at '@LogCollector.start(Path, Consumer)'."),
+                Objects.requireNonNull(renderer, "[ERROR]: Parameter 'renderer' cannot be null at '@LogCollector.start(Path, Consumer)'.")
+        );
+        collector.acceptor.start();
+        return collector;
+    }
+
+    /**
+     * Creates the default renderer, which prints {@code time [source] line} with the source in its own color.
+     *
+     * @param out the stream to print to.
+     * @return the renderer.
+     */
+    @NotNull
+    public static Consumer<LogEvent> printingTo(@NotNull PrintStream out)
+    {
+        return event -> out.println(
+                TIME_FORMAT.format(Instant.ofEpochMilli(event.epochMillis()))
+                        + " " + SOURCE_COLORS[Math.floorMod(event.source().hashCode(), SOURCE_COLORS.length)].getValue()
+                        + "[" + event.source() + "]" + AnsiColor.ANSI_RESET.getValue()
+                        + " " + event.line()
+        );
+    }
+
+    /**
+     * Stops accepting connections, closes all open connections and removes the socket file.
+     *
+     * @throws IOException if the socket file cannot be removed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        server.close();
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for(SocketChannel connection : connections)
+            connection.close();
+        Files.deleteIfExists(socketPath);
+    }
+
+    /**
+     * Removes the socket file of a collector that is no longer running. Anything else at {@code socketPath},
+     * including the socket of a collector that still accepts connections, is left alone.
+     *
+     * @throws FileAlreadyExistsException if the path is not a socket file or a collector is listening on it.
+     */
+    private static void removeStaleSocket(Path socketPath) throws IOException
+    {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(socketPath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        // Sockets are neither regular files, directories nor links.
+        if(!attributes.isOther())
+            throw new FileAlreadyExistsException(socketPath.toString(), null, "[ERROR]: Path is not a socket file at '@LogCollector.removeStaleSocket(Path)'.");
+
+        try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            probe.connect(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException e) {
+            // Nothing accepts connections on the socket any more.
+            Files.deleteIfExists(socketPath);
+            return;
+        }
+        throw new FileAlreadyExistsException(socketPath.toString(), null, "[ERROR]: Another collector is listening on the socket at '@LogCollector.removeStaleSocket(Path)'.");
+    }
+
+    private void acceptLoop()
+    {
+        try {
+            while(server.isOpen()) {
+                SocketChannel connection = server.accept();
+                connections.add(connection);
+                Thread.ofVirtual().name("colorfulloggerlib-collector-connection").start(() -> readLoop(connection));
+            }
+        } catch (ClosedChannelException ignored) {
+            // The collector was closed.
+        } catch (IOException e) {
+            System.err.println("[ERROR]: Collector stopped accepting connections at '@LogCollector.acceptLoop()': " + e.getMessage());
+        }
+    }
+
+    private void readLoop(SocketChannel connection)
+    {
+        try (connection) {
+            List<LogEvent> events;
+            while((events = LogFrameCodec.read(connection)) != null) {
+                renderLock.lock();
+                try {
+                    render(events);
+                } finally {
+                    renderLock.unlock();
+                }
+                LogFrameCodec.writeAck(connection, events.size());
+            }
+        } catch (ClosedChannelException ignored) {
+            // The collector was closed.
+        } catch (IOException e) {
+            System.err.println("[ERROR]: Dropped connection at '@LogCollector.readLoop(SocketChannel)': " + e.getMessage());
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    /**
+     * Hands every event of a frame to the renderer. An event the renderer fails on is skipped and the frame is still
+     * acknowledged, as the sender would otherwise resend the same frame forever.
+     */
+    private void render(List<LogEvent> events)
+    {
+        int failed = 0;
+        RuntimeException first = null;
+        for(LogEvent event : events) {
+            try {
+                renderer.accept(event);
+            } catch (RuntimeException e) {
+                failed++;
+                if(first == null)
+                    first = e;
+            }
+        }
+        if(first != null)
+            System.err.printf("[ERROR]: Renderer failed on %d of %d events of a frame, which were skipped, at '@LogCollector.render(List)': %s%n", failed, events.size(), first);
+    }
+
+    /**
+     * Runs the bundled collector until the process is terminated.
+     *
+     * @param args the socket path to listen on.
+     * @throws IOException if the socket cannot be bound.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length != 1) {
+            System.err.println("Usage: java -cp colorfulloggerlib.jar net.handsomesteve.collector.LogCollector <socket-path>");
+            System.exit(2);
+        }
+        LogCollector collector = LogCollector.start(Path.of(args[0]));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                collector.close();
+            } catch (IOException ignored) {
+                // The process is exiting either way.
+            }
+        }));
+    }
+}
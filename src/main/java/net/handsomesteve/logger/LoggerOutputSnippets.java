@@ -1,6 +1,7 @@
 package net.handsomesteve.logger;
 
 import net.handsomesteve.api.ColorfulLogger;
+import net.handsomesteve.api.LogCategory;
 import net.handsomesteve.api.ansi.AnsiColorBackground;
 import net.handsomesteve.api.ansi.AnsiColorText;
 
@@ -12,10 +13,12 @@ import java.util.Objects;
  * with contextual and color enhancements to the debug console during mod development.
  *
  * <p>It uses {@link ColorfulLogger} to ensure all messages are consistently formatted and visible.
+ * Each snippet belongs to a {@link LogCategory} and returns before formatting anything if that category is disabled.
+ * That check is the only read of the debug mask, the message itself is printed with {@code ColorfulLogger.infoUnchecked}.
  * This class is not intended to be instantiated or extended.</p>
  *
  * @author handsome-steve
- * @version 2.1.0
+ * @version 2.3.0
  * @since 2.1.0
  */
 public abstract class LoggerOutputSnippets
@@ -52,14 +55,18 @@ public abstract class LoggerOutputSnippets
      */
     public static void initializingSnippet(String initializationTarget, boolean onlyOnDatagen, AnsiColorText colorText, AnsiColorBackground colorBackground)
     {
+        ColorfulLogger logger = getLogger();
+        if(!logger.isEnabled(LogCategory.INITIALIZING))
+            return;
+
         if(onlyOnDatagen) {
-            getLogger().info(
+            logger.infoUnchecked(
                     String.format(" >> Initializing: %s %s ", initializationTarget, LoggerOutputSnippets.ONLY_ON_DATAGEN),
                     colorText, colorBackground
             );
             return;
         }
-        getLogger().info(
+        logger.infoUnchecked(
                 String.format(" >> Initializing: %s ", initializationTarget),
                 colorText, colorBackground
         );
@@ -75,14 +82,18 @@ public abstract class LoggerOutputSnippets
      */
     public static void registeringSnippet(String registrationTarget, String identifierPath, boolean asPoolChild, AnsiColorText colorText)
     {
+        ColorfulLogger logger = getLogger();
+        if(!logger.isEnabled(LogCategory.REGISTERING))
+            return;
+
         if(asPoolChild) {
-            getLogger().info(
+            logger.infoUnchecked(
                     String.format("\t\t> Registering %s %s: %s", registrationTarget, identifierPath, LoggerOutputSnippets.AS_POOL_CHILD),
                     colorText
             );
             return;
         }
-        getLogger().info(
+        logger.infoUnchecked(
                 String.format("\t\t>> Registering %s: %s", registrationTarget, identifierPath),
                 colorText
         );
@@ -99,29 +110,33 @@ public abstract class LoggerOutputSnippets
      */
     public static void generatingSnippet(String generationTarget, boolean asPoolChild, boolean onlyOnDatagen, AnsiColorText colorText, AnsiColorBackground colorBackground)
     {
+        ColorfulLogger logger = getLogger();
+        if(!logger.isEnabled(LogCategory.GENERATING))
+            return;
+
         if(onlyOnDatagen) {
             if(asPoolChild)
             {
-                getLogger().info(
+                logger.infoUnchecked(
                         String.format(" >> Generating %s %s %s ", generationTarget, LoggerOutputSnippets.AS_POOL_CHILD, LoggerOutputSnippets.ONLY_ON_DATAGEN),
                         colorText, colorBackground
                 );
                 return;
             }
-            getLogger().info(
+            logger.infoUnchecked(
                     String.format(" >> Generating %s %s ", generationTarget, LoggerOutputSnippets.ONLY_ON_DATAGEN),
                     colorText, colorBackground
             );
             return;
         }
         if(asPoolChild) {
-            getLogger().info(
+            logger.infoUnchecked(
                     String.format(" >> Generating %s %s ", generationTarget, LoggerOutputSnippets.AS_POOL_CHILD),
                     colorText, colorBackground
             );
             return;
         }
-        getLogger().info(
+        logger.infoUnchecked(
                 String.format(" >> Generating %s", generationTarget),
                 colorText, colorBackground
         );
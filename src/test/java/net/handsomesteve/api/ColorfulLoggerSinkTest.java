@@ -0,0 +1,102 @@
+package net.handsomesteve.api;
+
+import net.handsomesteve.api.ansi.AnsiColorBackground;
+import net.handsomesteve.api.ansi.AnsiColorText;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks which outputs of {@link ColorfulLogger} receive a message for each {@link ILogSink} mode.
+ * The slf4j output is observed through an appender on the reload4j logger behind it.
+ */
+class ColorfulLoggerSinkTest
+{
+    private ColorfulLogger logger;
+    private org.apache.log4j.Logger backend;
+    private final List<String> printed = new CopyOnWriteArrayList<>();
+    private final List<String> appended = new CopyOnWriteArrayList<>();
+
+    private final AppenderSkeleton appender = new AppenderSkeleton()
+    {
+        @Override
+        protected void append(LoggingEvent event)
+        {
+            appended.add(event.getRenderedMessage());
+        }
+
+        @Override
+        public boolean requiresLayout() { return false; }
+
+        @Override
+        public void close() {}
+    };
+
+    @BeforeEach
+    void setUp()
+    {
+        logger = ColorfulLogger.getInstance("colorfulloggerlib-test", true);
+        logger.setDebug(true);
+        backend = org.apache.log4j.Logger.getLogger(logger.getLogger().getName());
+        backend.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        backend.removeAppender(appender);
+        logger.setSink(null);
+    }
+
+    @Test
+    void sharedSinkReceivesMessagesAlongsideLogger()
+    {
+        logger.setSink((message, colorText, colorBackground) -> printed.add(message));
+        assertFalse(logger.isSinkExclusive());
+
+        logger.info("plain");
+
+        assertEquals(List.of("plain"), printed);
+        assertEquals(List.of("plain"), appended);
+    }
+
+    @Test
+    void exclusiveSinkBypassesLogger()
+    {
+        logger.setSink((message, colorText, colorBackground) -> printed.add(message), true);
+        assertTrue(logger.isSinkExclusive());
+
+        logger.info("plain");
+        logger.info("foreground", AnsiColorText.ANSI_BRIGHT_GREEN);
+        logger.info("background", AnsiColorText.ANSI_BRIGHT_RED, AnsiColorBackground.ANSI_BLACK_BACK);
+        logger.info(LogCategory.ERRORS, "category");
+
+        assertEquals(List.of("plain", "foreground", "background", "category"), printed);
+        assertTrue(appended.isEmpty(), () -> "The slf4j logger still received " + appended + ".");
+    }
+
+    @Test
+    void removingExclusiveSinkRestoresLogger()
+    {
+        logger.setSink((message, colorText, colorBackground) -> printed.add(message), true);
+        logger.setSink(null, true);
+        assertNull(logger.getSink());
+        assertFalse(logger.isSinkExclusive());
+
+        logger.info("plain");
+
+        assertTrue(printed.isEmpty());
+        assertEquals(List.of("plain"), appended);
+    }
+}
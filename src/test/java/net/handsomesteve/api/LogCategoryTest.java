@@ -0,0 +1,188 @@
+package net.handsomesteve.api;
+
+import net.handsomesteve.api.ansi.AnsiColorBackground;
+import net.handsomesteve.api.ansi.AnsiColorText;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises the per-{@link LogCategory} debug mask of {@link ColorfulLogger}.
+ */
+class LogCategoryTest
+{
+    private ColorfulLogger logger;
+    private final List<String> printed = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp()
+    {
+        logger = ColorfulLogger.getInstance("colorfulloggerlib-test", true);
+        logger.setDebug(true);
+        logger.setSink((message, colorText, colorBackground) -> printed.add(message));
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        logger.setSink(null);
+        logger.setDebug(true);
+    }
+
+    @Test
+    void categoriesToggleIndependently()
+    {
+        logger.setEnabled(LogCategory.REGISTERING, false);
+
+        assertTrue(logger.isEnabled(LogCategory.INITIALIZING));
+        assertFalse(logger.isEnabled(LogCategory.REGISTERING));
+        assertTrue(logger.getDebug());
+
+        logger.info(LogCategory.INITIALIZING, "initializing", AnsiColorText.ANSI_BRIGHT_CYAN, AnsiColorBackground.ANSI_BLACK_BACK);
+        logger.info(LogCategory.REGISTERING, "registering", AnsiColorText.ANSI_GREEN);
+        logger.info("general");
+
+        assertEquals(List.of("initializing", "general"), printed);
+    }
+
+    @Test
+    void setDebugTogglesEveryCategory()
+    {
+        logger.setDebug(false);
+        assertFalse(logger.getDebug());
+        for(LogCategory category : List.of(LogCategory.GENERAL, LogCategory.INITIALIZING, LogCategory.REGISTERING, LogCategory.GENERATING, LogCategory.ERRORS))
+            assertFalse(logger.isEnabled(category));
+
+        logger.info("general");
+        assertTrue(printed.isEmpty());
+
+        logger.setDebug(true);
+        logger.info("general");
+        assertEquals(List.of("general"), printed);
+    }
+
+    @Test
+    void disablingEveryCategoryDisablesDebug()
+    {
+        for(LogCategory category : List.of(LogCategory.GENERAL, LogCategory.INITIALIZING, LogCategory.REGISTERING, LogCategory.GENERATING, LogCategory.ERRORS))
+            logger.setEnabled(category, false);
+        // Categories registered by other tests in this class keep their bit, turn them off as well.
+        for(String name : List.of("worldgen", "propertyoff", "propertyon")) {
+            LogCategory registered = logger.getCategory(name);
+            if(registered != null)
+                logger.setEnabled(registered, false);
+        }
+
+        // setDebug(true) left the bits of unregistered categories set, they must not count.
+        assertFalse(logger.getDebug());
+
+        logger.setEnabled(LogCategory.ERRORS, true);
+        assertTrue(logger.getDebug());
+    }
+
+    @Test
+    void registeredCategoriesGetTheirOwnBit()
+    {
+        LogCategory worldgen = logger.registerCategory("worldgen");
+        assertEquals(worldgen, logger.registerCategory("worldgen"));
+        assertEquals(worldgen, logger.getCategory("worldgen"));
+        assertEquals(LogCategory.ERRORS, logger.getCategory("errors"));
+        assertNull(logger.getCategory("missing"));
+        assertEquals(1, Long.bitCount(worldgen.getMask()));
+        assertTrue(worldgen.getMask() >= 1L << LogCategory.BUILT_IN_COUNT);
+
+        assertTrue(logger.isEnabled(worldgen));
+        logger.setEnabled(worldgen, false);
+        logger.info(worldgen, "worldgen");
+        logger.info(LogCategory.GENERATING, "generating");
+
+        assertEquals(List.of("generating"), printed);
+    }
+
+    @Test
+    void registeredCategoriesRejectInvalidNames()
+    {
+        for(String name : List.of("", "world.gen", "world gen", "worldgen\t"))
+            assertThrows(IllegalArgumentException.class, () -> logger.registerCategory(name), () -> "Accepted '" + name + "'.");
+        assertNull(logger.getCategory("world.gen"));
+    }
+
+    @Test
+    void registeredCategoriesReadTheirDebugProperty()
+    {
+        String disabled = ColorfulLogger.DEBUG_PROPERTY + ".propertyoff";
+        String enabled = ColorfulLogger.DEBUG_PROPERTY + ".propertyon";
+        System.setProperty(disabled, "false");
+        System.setProperty(enabled, "true");
+        try {
+            assertFalse(logger.isEnabled(logger.registerCategory("propertyoff")));
+
+            logger.setDebug(false);
+            assertTrue(logger.isEnabled(logger.registerCategory("propertyon")));
+        } finally {
+            System.clearProperty(disabled);
+            System.clearProperty(enabled);
+        }
+    }
+
+    @Test
+    void debugPropertiesOverrideEveryCategory()
+    {
+        String errors = ColorfulLogger.DEBUG_PROPERTY + "." + LogCategory.ERRORS.getName();
+        System.setProperty(ColorfulLogger.DEBUG_PROPERTY, "false");
+        System.setProperty(errors, "true");
+        try {
+            logger.applyDebugProperties();
+        } finally {
+            System.clearProperty(ColorfulLogger.DEBUG_PROPERTY);
+            System.clearProperty(errors);
+        }
+
+        assertTrue(logger.isEnabled(LogCategory.ERRORS));
+        for(LogCategory category : List.of(LogCategory.GENERAL, LogCategory.INITIALIZING, LogCategory.REGISTERING, LogCategory.GENERATING))
+            assertFalse(logger.isEnabled(category));
+    }
+
+    @Test
+    void togglesAreVisibleToOtherThreads() throws InterruptedException
+    {
+        logger.setEnabled(LogCategory.GENERATING, false);
+        CountDownLatch spinning = new CountDownLatch(1);
+        Thread reader = Thread.ofPlatform().daemon(true).start(() -> {
+            // Counted down only after the reader has seen the category disabled, so the toggle below is what ends the loop.
+            while(!logger.isEnabled(LogCategory.GENERATING)) {
+                spinning.countDown();
+                Thread.onSpinWait();
+            }
+        });
+
+        assertTrue(spinning.await(5L, TimeUnit.SECONDS), "The reader never started spinning.");
+        logger.setEnabled(LogCategory.GENERATING, true);
+        reader.join(5_000L);
+
+        assertFalse(reader.isAlive(), "The reader never observed the toggle.");
+    }
+
+    @Test
+    void sinkOnlyReceivesEnabledCategories()
+    {
+        logger.setEnabled(LogCategory.GENERAL, false);
+
+        logger.info("hidden", AnsiColorText.ANSI_BRIGHT_RED);
+        logger.info(LogCategory.ERRORS, "shown", AnsiColorText.ANSI_BRIGHT_RED);
+
+        assertEquals(List.of("shown"), printed);
+    }
+}
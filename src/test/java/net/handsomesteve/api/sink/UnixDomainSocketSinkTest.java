@@ -0,0 +1,322 @@
+package net.handsomesteve.api.sink;
+
+import net.handsomesteve.api.ansi.AnsiColor;
+import net.handsomesteve.api.ansi.AnsiColorBackground;
+import net.handsomesteve.api.ansi.AnsiColorText;
+import net.handsomesteve.collector.LogCollector;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link UnixDomainSocketSink}, {@link LogFrameCodec} and {@link LogCollector} over a socket in a temporary directory.
+ */
+class UnixDomainSocketSinkTest
+{
+    private Path directory;
+    private Path socket;
+    private final List<LogEvent> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        // Kept short, socket paths are limited to around 100 bytes.
+        directory = Files.createTempDirectory("cll");
+        socket = directory.resolve("s.sock");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for(Path path : paths.sorted(Comparator.reverseOrder()).toList())
+                Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void codecRoundTrip() throws IOException
+    {
+        List<LogEvent> events = List.of(new LogEvent("mod", 1L, "first"), new LogEvent("mod", 2L, "\u001B[92mzweite ü\u001B[0m"));
+        ByteBuffer frame = LogFrameCodec.encode("mod", events);
+
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(frame.array()));
+        assertEquals(events, LogFrameCodec.read(channel));
+        assertNull(LogFrameCodec.read(channel));
+    }
+
+    @Test
+    void codecRejectsTruncatedFrame()
+    {
+        ByteBuffer frame = LogFrameCodec.encode("mod", List.of(new LogEvent("mod", 1L, "line")));
+        byte[] truncated = Arrays.copyOf(frame.array(), frame.limit() - 1);
+
+        assertThrows(IOException.class, () -> LogFrameCodec.read(Channels.newChannel(new ByteArrayInputStream(truncated))));
+
+        // The source length follows the frame length; neither bound may be allocated.
+        for(int sourceLength : new int[] { Integer.MAX_VALUE, -1 }) {
+            byte[] corrupt = Arrays.copyOf(frame.array(), frame.limit());
+            ByteBuffer.wrap(corrupt).putInt(Integer.BYTES, sourceLength);
+            assertThrows(IOException.class, () -> LogFrameCodec.read(Channels.newChannel(new ByteArrayInputStream(corrupt))));
+        }
+    }
+
+    @Test
+    void shipsRenderedLinesToCollector() throws Exception
+    {
+        try (LogCollector collector = LogCollector.start(socket, received::add);
+             UnixDomainSocketSink sink = UnixDomainSocketSink.connect(socket, "mod-a")) {
+            sink.accept("plain", null, null);
+            sink.accept("green", AnsiColorText.ANSI_BRIGHT_GREEN, null);
+            sink.accept("red on black", AnsiColorText.ANSI_BRIGHT_RED, AnsiColorBackground.ANSI_BLACK_BACK);
+
+            awaitReceived(3);
+        }
+
+        String reset = AnsiColor.ANSI_RESET.getValue();
+        assertEquals(List.of(
+                "plain",
+                AnsiColorText.ANSI_BRIGHT_GREEN.getValue() + "green" + reset,
+                AnsiColorText.ANSI_BRIGHT_RED.getValue() + AnsiColorBackground.ANSI_BLACK_BACK.getValue() + "red on black" + reset
+        ), received.stream().map(LogEvent::line).toList());
+        assertTrue(received.stream().allMatch(event -> event.source().equals("mod-a")));
+    }
+
+    @Test
+    void mergesSeveralSources() throws Exception
+    {
+        try (LogCollector collector = LogCollector.start(socket, received::add);
+             UnixDomainSocketSink first = UnixDomainSocketSink.connect(socket, "mod-a");
+             UnixDomainSocketSink second = UnixDomainSocketSink.connect(socket, "mod-b")) {
+            for(int i = 0; i < 500; i++) {
+                first.accept("a" + i, null, null);
+                second.accept("b" + i, null, null);
+            }
+
+            awaitReceived(1_000);
+        }
+
+        List<String> fromFirst = new ArrayList<>();
+        for(LogEvent event : received) {
+            if(event.source().equals("mod-a"))
+                fromFirst.add(event.line());
+        }
+        assertEquals(500, fromFirst.size());
+        assertEquals("a0", fromFirst.get(0));
+        assertEquals("a499", fromFirst.get(499));
+    }
+
+    @Test
+    void buffersUntilCollectorIsReachable() throws Exception
+    {
+        try (UnixDomainSocketSink sink = UnixDomainSocketSink.connect(socket, "mod-a", 16, 4, 10L, 20L)) {
+            for(int i = 0; i < 10; i++)
+                sink.accept("early" + i, null, null);
+            Thread.sleep(100L);
+
+            try (LogCollector collector = LogCollector.start(socket, received::add)) {
+                awaitReceived(10);
+            }
+            assertEquals(0L, sink.getDroppedCount());
+        }
+
+        assertEquals("early0", received.get(0).line());
+        assertEquals("early9", received.get(9).line());
+    }
+
+    @Test
+    void reconnectsAfterCollectorRestart() throws Exception
+    {
+        try (UnixDomainSocketSink sink = UnixDomainSocketSink.connect(socket, "mod-a", 64, 8, 10L, 20L)) {
+            try (LogCollector collector = LogCollector.start(socket, received::add)) {
+                sink.accept("before", null, null);
+                awaitReceived(1);
+            }
+
+            sink.accept("while down", null, null);
+            Thread.sleep(100L);
+
+            try (LogCollector collector = LogCollector.start(socket, received::add)) {
+                sink.accept("after", null, null);
+                awaitReceived(3);
+            }
+        }
+
+        assertEquals(List.of("before", "while down", "after"), received.stream().map(LogEvent::line).toList());
+    }
+
+    @Test
+    void dropsOldestWhenBufferIsFull() throws Exception
+    {
+        try (UnixDomainSocketSink sink = UnixDomainSocketSink.connect(socket, "mod-a", 4, 2, 10L, 20L)) {
+            for(int i = 0; i < 100; i++)
+                sink.accept("line" + i, null, null);
+
+            try (LogCollector collector = LogCollector.start(socket, received::add)) {
+                awaitReceived(4);
+                Thread.sleep(100L);
+            }
+            assertEquals(100L, sink.getDroppedCount() + sink.getSentCount());
+        }
+
+        assertTrue(received.size() <= 6, "At most one batch and the queue may be buffered.");
+        assertEquals("line99", received.get(received.size() - 1).line());
+    }
+
+    @Test
+    void dropsMessageLargerThanAFrame() throws Exception
+    {
+        try (LogCollector collector = LogCollector.start(socket, received::add);
+             UnixDomainSocketSink sink = UnixDomainSocketSink.connect(socket, "mod-a")) {
+            sink.accept("before", null, null);
+            sink.accept("x".repeat(LogFrameCodec.MAX_FRAME_LENGTH), null, null);
+            sink.accept("after", null, null);
+
+            awaitReceived(2);
+            assertEquals(1L, sink.getDroppedCount());
+        }
+
+        assertEquals(List.of("before", "after"), received.stream().map(LogEvent::line).toList());
+    }
+
+    @Test
+    void splitsBatchesLargerThanAFrame() throws Exception
+    {
+        String padding = "y".repeat(70 * 1024);
+        try (UnixDomainSocketSink sink = UnixDomainSocketSink.connect(socket, "mod-a", 512, 512, 10L, 20L)) {
+            // Queued while the collector is down, so that the first batch would exceed a frame.
+            for(int i = 0; i < 300; i++)
+                sink.accept(i + padding, null, null);
+
+            try (LogCollector collector = LogCollector.start(socket, received::add)) {
+                awaitReceived(300);
+            }
+            assertEquals(0L, sink.getDroppedCount());
+        }
+
+        assertEquals("0" + padding, received.get(0).line());
+        assertEquals("299" + padding, received.get(299).line());
+    }
+
+    @Test
+    void collectorSkipsEventsItsRendererFailsOn() throws Exception
+    {
+        Consumer<LogEvent> renderer = event -> {
+            if(event.line().equals("poison"))
+                throw new IllegalStateException("Cannot render " + event.line());
+            received.add(event);
+        };
+        try (LogCollector collector = LogCollector.start(socket, renderer);
+             UnixDomainSocketSink sink = UnixDomainSocketSink.connect(socket, "mod-a", 64, 8, 10L, 20L)) {
+            sink.accept("before", null, null);
+            sink.accept("poison", null, null);
+            sink.accept("after", null, null);
+            awaitReceived(2);
+
+            sink.accept("later", null, null);
+            awaitReceived(3);
+            assertEquals(4L, sink.getSentCount());
+        }
+
+        assertEquals(List.of("before", "after", "later"), received.stream().map(LogEvent::line).toList());
+    }
+
+    @Test
+    void resendsBatchWhenAcknowledgementDoesNotMatch() throws Exception
+    {
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            try (UnixDomainSocketSink sink = UnixDomainSocketSink.connect(socket, "mod-a", 64, 8, 10L, 20L)) {
+                sink.accept("only", null, null);
+
+                try (SocketChannel first = server.accept()) {
+                    assertEquals(1, LogFrameCodec.read(first).size());
+                    LogFrameCodec.writeAck(first, 0);
+                }
+                try (SocketChannel second = server.accept()) {
+                    List<LogEvent> resent = LogFrameCodec.read(second);
+                    assertEquals("only", resent.get(0).line());
+                    LogFrameCodec.writeAck(second, resent.size());
+                }
+
+                long deadline = System.nanoTime() + 5_000_000_000L;
+                while(sink.getSentCount() < 1L && System.nanoTime() < deadline)
+                    Thread.sleep(5L);
+                assertEquals(1L, sink.getSentCount());
+            }
+        }
+    }
+
+    @Test
+    void collectorReplacesStaleSocket() throws Exception
+    {
+        try (ServerSocketChannel stale = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            stale.bind(UnixDomainSocketAddress.of(socket));
+        }
+        assertTrue(Files.exists(socket));
+
+        try (LogCollector collector = LogCollector.start(socket, received::add);
+             UnixDomainSocketSink sink = UnixDomainSocketSink.connect(socket, "mod-a")) {
+            sink.accept("plain", null, null);
+            awaitReceived(1);
+        }
+    }
+
+    @Test
+    void collectorRefusesLiveSocket() throws Exception
+    {
+        try (LogCollector collector = LogCollector.start(socket, received::add)) {
+            assertThrows(FileAlreadyExistsException.class, () -> LogCollector.start(socket, received::add));
+
+            try (UnixDomainSocketSink sink = UnixDomainSocketSink.connect(socket, "mod-a")) {
+                sink.accept("still listening", null, null);
+                awaitReceived(1);
+            }
+        }
+    }
+
+    @Test
+    void collectorRefusesRegularFile() throws IOException
+    {
+        Files.writeString(socket, "not a socket");
+
+        assertThrows(FileAlreadyExistsException.class, () -> LogCollector.start(socket, received::add));
+        assertEquals("not a socket", Files.readString(socket));
+    }
+
+    private void awaitReceived(int count) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while(received.size() < count) {
+            if(System.nanoTime() > deadline)
+                throw new AssertionError("Received " + received.size() + " of " + count + " events." + received);
+            Thread.sleep(5L);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package net.handsomesteve.harness;
+
+import net.handsomesteve.api.ColorfulLogger;
+import net.handsomesteve.api.LogCategory;
+import net.handsomesteve.api.ansi.AnsiColorBackground;
+import net.handsomesteve.api.ansi.AnsiColorText;
+import net.handsomesteve.logger.ExceptionStringSnippets;
+import net.handsomesteve.logger.LoggerOutputSnippets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Fails the build when a call to {@link ColorfulLogger#info(String)}, {@link LoggerOutputSnippets} or
+ * {@link ExceptionStringSnippets} allocates more bytes than its budget.
+ *
+ * <p>Budgets are bytes per call, measured on the calling thread after a warm-up, and can be overridden with
+ * {@code -Dcolorfulloggerlib.harness.alloc.<name>=<bytes>}. Enabled calls go through the test {@code log4j.properties},
+ * which formats every event with a {@code PatternLayout} and discards it through {@link DiscardingAppender}.</p>
+ */
+class AllocationBudgetTest
+{
+    private static final int WARMUP = (int) HarnessSupport.longProperty("alloc.warmup", 20_000);
+    private static final int ITERATIONS = (int) HarnessSupport.longProperty("alloc.iterations", 50_000);
+
+    private static final String MESSAGE = ">>> Allocation budget message";
+
+    private static ColorfulLogger logger;
+
+    @BeforeAll
+    static void setUp()
+    {
+        com.sun.management.ThreadMXBean threadMXBean = HarnessSupport.threadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "Thread allocation accounting is not supported by this JVM.");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        logger = HarnessSupport.logger();
+    }
+
+    @AfterEach
+    void resetDebug()
+    {
+        logger.setDebug(true);
+    }
+
+    @Test
+    void infoWithDebugDisabledDoesNotAllocate()
+    {
+        logger.setDebug(false);
+        assertWithinBudget("info.disabled", 1, () -> {
+            logger.info(MESSAGE);
+            logger.info(MESSAGE, AnsiColorText.ANSI_BRIGHT_GREEN);
+            logger.info(MESSAGE, AnsiColorText.ANSI_BRIGHT_RED, AnsiColorBackground.ANSI_BLACK_BACK);
+        });
+    }
+
+    @Test
+    void snippetsWithCategoryDisabledDoNotAllocate()
+    {
+        logger.setEnabled(LogCategory.INITIALIZING, false);
+        logger.setEnabled(LogCategory.REGISTERING, false);
+        logger.setEnabled(LogCategory.GENERATING, false);
+        assertWithinBudget("snippet.disabled", 1, () -> {
+            LoggerOutputSnippets.initializingSnippet("Blocks", true, AnsiColorText.ANSI_BRIGHT_CYAN, AnsiColorBackground.ANSI_BLACK_BACK);
+            LoggerOutputSnippets.registeringSnippet("Block", "example_block", true, AnsiColorText.ANSI_GREEN);
+            LoggerOutputSnippets.generatingSnippet("Loot Tables", true, true, AnsiColorText.ANSI_BRIGHT_CYAN, AnsiColorBackground.ANSI_BLACK_BACK);
+        });
+    }
+
+    @Test
+    void plainInfo()
+    {
+        assertWithinBudget("info.plain", 1_024, () -> logger.info(MESSAGE));
+    }
+
+    @Test
+    void foregroundInfo()
+    {
+        assertWithinBudget("info.foreground", 2_048, () -> logger.info(MESSAGE, AnsiColorText.ANSI_BRIGHT_GREEN));
+    }
+
+    @Test
+    void foregroundAndBackgroundInfo()
+    {
+        assertWithinBudget("info.background", 2_048,
+                () -> logger.info(MESSAGE, AnsiColorText.ANSI_BRIGHT_RED, AnsiColorBackground.ANSI_BLACK_BACK));
+    }
+
+    @Test
+    void initializingSnippet()
+    {
+        assertWithinBudget("snippet.initializing", 4_096, () -> LoggerOutputSnippets.initializingSnippet(
+                "Blocks", true, AnsiColorText.ANSI_BRIGHT_CYAN, AnsiColorBackground.ANSI_BLACK_BACK));
+    }
+
+    @Test
+    void registeringSnippet()
+    {
+        assertWithinBudget("snippet.registering", 4_096, () -> LoggerOutputSnippets.registeringSnippet(
+                "Block", "example_block", true, AnsiColorText.ANSI_GREEN));
+    }
+
+    @Test
+    void generatingSnippet()
+    {
+        assertWithinBudget("snippet.generating", 4_096, () -> LoggerOutputSnippets.generatingSnippet(
+                "Loot Tables", true, true, AnsiColorText.ANSI_BRIGHT_CYAN, AnsiColorBackground.ANSI_BLACK_BACK));
+    }
+
+    @Test
+    void nonNullParamErrorSnippet()
+    {
+        assertWithinBudget("exception.nonNullParam", 3_072, () -> ExceptionStringSnippets.nonNullParamError_Snippet(
+                "identifier", "References.itemOfIdentifier(Identifier)", "ColorfulLogger.getInstance(String)"));
+    }
+
+    @Test
+    void nonNullGetErrorSnippet()
+    {
+        assertWithinBudget("exception.nonNullGet", 3_072, () -> ExceptionStringSnippets.nonNullGetError_Snippet(
+                "identifier", "BlocksRegister.register(Identifier, BlockData)"));
+    }
+
+    @Test
+    void nonNullAssignErrorSnippet()
+    {
+        assertWithinBudget("exception.nonNullAssign", 3_072, () -> ExceptionStringSnippets.nonNullAssignError_Snippet(
+                "block", "Block", "BlocksRegister.register(Identifier, BlockData)"));
+    }
+
+    @Test
+    void keyAlreadyExistsExceptionSnippet()
+    {
+        assertWithinBudget("exception.keyAlreadyExists", 3_072, () -> ExceptionStringSnippets.keyAlreadyExistsException_Snippet(
+                "already exist", "Identifier", "BlocksRegister.BLOCKS"));
+    }
+
+    @Test
+    void illegalArgumentExceptionSnippet()
+    {
+        assertWithinBudget("exception.illegalArgument", 3_072, () -> ExceptionStringSnippets.illegalArgumentException_Snippet(
+                "be empty", "Identifier", "BlocksRegister.register(Identifier, BlockData)"));
+    }
+
+    @Test
+    void assertionErrorSnippet()
+    {
+        assertWithinBudget("exception.assertion", 3_072, () -> ExceptionStringSnippets.assertionError_Snippet(
+                "instantiated", "ExceptionStringSnippets", "ExceptionStringSnippets()"));
+    }
+
+    private static void assertWithinBudget(String name, long defaultBudget, Runnable operation)
+    {
+        long budget = HarnessSupport.longProperty("alloc." + name, defaultBudget);
+        double measured = HarnessSupport.allocatedBytesPerCall(WARMUP, ITERATIONS, operation);
+        System.out.printf("[alloc] %-28s %8.1f B/call (budget %d)%n", name, measured, budget);
+        assertTrue(measured <= budget, () -> String.format(
+                "'%s' allocated %.1f bytes per call, over its budget of %d bytes.", name, measured, budget));
+    }
+}
@@ -0,0 +1,120 @@
+package net.handsomesteve.harness;
+
+import net.handsomesteve.api.ColorfulLogger;
+import net.handsomesteve.api.ansi.AnsiColorBackground;
+import net.handsomesteve.api.ansi.AnsiColorText;
+import net.handsomesteve.logger.ExceptionStringSnippets;
+import net.handsomesteve.logger.LoggerOutputSnippets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails the build when a path of {@link ColorfulLogger}, {@link LoggerOutputSnippets} or {@link ExceptionStringSnippets}
+ * that must not take a lock starts blocking on a monitor or parking on a {@code java.util.concurrent} lock, on platform
+ * threads or, if JFR is available, on virtual threads.
+ *
+ * <p>Only blocked, parked and pinned counts are checked, so the result does not depend on the speed or load of the
+ * machine. Throughput is covered by {@link ScalingTest}, which runs in the separate {@code performanceTest} task.</p>
+ *
+ * <p>Enabled messages are printed to an exclusive sink that discards them. reload4j appends under monitors of its
+ * own, so bypassing it leaves exactly the dispatch of {@link ColorfulLogger} and the snippets under test.</p>
+ *
+ * <p>N defaults to {@link HarnessSupport#maxThreads()}. The budget is read from
+ * {@code colorfulloggerlib.harness.contention.max}.</p>
+ */
+class ContentionTest
+{
+    private static final int OPERATIONS = (int) HarnessSupport.longProperty("contention.operations", 20_000);
+
+    /**
+     * Highest acceptable number of monitor blocks, parks and pins per call on a lock-free path.
+     */
+    private static final double MAX_CONTENDED_PER_OPERATION = HarnessSupport.doubleProperty("contention.max", 0.001);
+
+    private static ColorfulLogger logger;
+
+    @BeforeAll
+    static void setUp()
+    {
+        com.sun.management.ThreadMXBean threadMXBean = HarnessSupport.threadMXBean();
+        if(threadMXBean.isThreadContentionMonitoringSupported())
+            threadMXBean.setThreadContentionMonitoringEnabled(true);
+        logger = HarnessSupport.logger();
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        logger.setSink(null);
+        logger.setDebug(true);
+    }
+
+    @Test
+    void infoWithDebugDisabledDoesNotBlock() throws InterruptedException
+    {
+        logger.setDebug(false);
+        assertDoesNotBlock("info.disabled", () -> logger.info(
+                ">>> Contention message", AnsiColorText.ANSI_BRIGHT_RED, AnsiColorBackground.ANSI_BLACK_BACK));
+    }
+
+    @Test
+    void infoWithDebugEnabledDoesNotBlock() throws InterruptedException
+    {
+        logger.setSink((message, colorText, colorBackground) -> {}, true);
+        assertDoesNotBlock("info.enabled", () -> {
+            logger.info(">>> Contention message");
+            logger.info(">>> Contention message", AnsiColorText.ANSI_BRIGHT_GREEN);
+            logger.info(">>> Contention message", AnsiColorText.ANSI_BRIGHT_RED, AnsiColorBackground.ANSI_BLACK_BACK);
+        });
+    }
+
+    @Test
+    void outputSnippetsDoNotBlock() throws InterruptedException
+    {
+        logger.setSink((message, colorText, colorBackground) -> {}, true);
+        assertDoesNotBlock("snippets", () -> {
+            LoggerOutputSnippets.initializingSnippet("Blocks", true, AnsiColorText.ANSI_BRIGHT_CYAN, AnsiColorBackground.ANSI_BLACK_BACK);
+            LoggerOutputSnippets.registeringSnippet("Block", "example_block", false, AnsiColorText.ANSI_GREEN);
+            LoggerOutputSnippets.generatingSnippet("Loot Tables", true, true, AnsiColorText.ANSI_BRIGHT_CYAN, AnsiColorBackground.ANSI_BLACK_BACK);
+        });
+    }
+
+    @Test
+    void exceptionSnippetsDoNotBlock() throws InterruptedException
+    {
+        assertDoesNotBlock("exception", () -> ExceptionStringSnippets.nonNullParamError_Snippet(
+                "identifier", "References.itemOfIdentifier(Identifier)"));
+    }
+
+    /**
+     * Runs {@code operation} at 1, 2, 4, ... up to N threads, on platform and virtual threads, and fails if the
+     * workers blocked, parked or were pinned more often than {@link #MAX_CONTENDED_PER_OPERATION}.
+     *
+     * @param name the name used in reports and failure messages.
+     * @param operation the call under test.
+     * @throws InterruptedException if interrupted while waiting for the workers.
+     */
+    private static void assertDoesNotBlock(String name, Runnable operation) throws InterruptedException
+    {
+        // Warm up on a single thread so that JIT compilation and class loading do not count as contention.
+        HarnessSupport.runConcurrently(1, false, false, OPERATIONS, operation);
+
+        for(boolean virtual : new boolean[] { false, true }) {
+            if(virtual && !HarnessSupport.virtualContentionMeasurable()) {
+                System.out.printf("[contention] %-14s virtual threads not measured, JFR is not available%n", name);
+                continue;
+            }
+            for(HarnessSupport.ScalingResult result : HarnessSupport.runAtIncreasingThreads(virtual, true, OPERATIONS, operation)) {
+                System.out.printf("[contention] %-14s %s%n", name, result);
+                assertTrue(result.contendedPerOperation() <= MAX_CONTENDED_PER_OPERATION, () -> String.format(
+                        "'%s' blocked, parked or pinned %d times over %d calls on %d %s threads, over its budget of %.4f per call.",
+                        name, result.contendedCount(), result.operations(), result.threads(),
+                        result.virtual() ? "virtual" : "platform", MAX_CONTENDED_PER_OPERATION));
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package net.handsomesteve.harness;
+
+import org.apache.log4j.WriterAppender;
+
+import java.io.Writer;
+
+/**
+ * Appender used by the test log4j configuration. Events are formatted by the configured layout like on a real
+ * console or file appender, but the output is written to {@link Writer#nullWriter()}, so the allocation and
+ * contention budgets cover the backend without measuring disk or terminal I/O.
+ */
+public class DiscardingAppender extends WriterAppender
+{
+    @Override
+    public void activateOptions()
+    {
+        setWriter(Writer.nullWriter());
+        super.activateOptions();
+    }
+}
@@ -0,0 +1,310 @@
+package net.handsomesteve.harness;
+
+import net.handsomesteve.api.ColorfulLogger;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared plumbing for the allocation and contention regression tests.
+ *
+ * <p>Allocation is read per thread through {@link com.sun.management.ThreadMXBean}. Contention is counted in two
+ * forms: blocking on a monitor, and parking, which is how {@code java.util.concurrent} locks such as
+ * {@code ReentrantLock} or the one inside {@code ArrayBlockingQueue} wait. On platform threads both are read from
+ * the blocked and waited counters of {@link ThreadInfo}. Those counters do not cover virtual threads, whose
+ * contention is recorded with the JFR events {@code jdk.JavaMonitorEnter}, {@code jdk.ThreadPark} and
+ * {@code jdk.VirtualThreadPinned} instead. JDK 21 only emits {@code jdk.ThreadPark} for a virtual thread that parks
+ * while pinned, not for one that unmounts, so on that JDK park-based contention is only caught by the platform-thread
+ * runs of the same path.</p>
+ *
+ * <p>Every budget can be overridden on the command line with {@code -Dcolorfulloggerlib.harness.<key>=<value>},
+ * which the Gradle {@code test} and {@code performanceTest} tasks forward to the test JVM.</p>
+ */
+final class HarnessSupport
+{
+    static final String MOD_ID = "colorfulloggerlib-harness";
+    static final String PROPERTY_PREFIX = "colorfulloggerlib.harness.";
+
+    private static final String VIRTUAL_WORKER_PREFIX = "harness-virtual-";
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private HarnessSupport() { throw new AssertionError(); }
+
+    /**
+     * Initializes the {@link ColorfulLogger} singleton, which {@code LoggerOutputSnippets} requires before it is loaded.
+     *
+     * @return the singleton instance of {@link ColorfulLogger}.
+     */
+    static ColorfulLogger logger()
+    {
+        return ColorfulLogger.getInstance(MOD_ID, true);
+    }
+
+    /**
+     * @return the platform {@link com.sun.management.ThreadMXBean}.
+     */
+    static com.sun.management.ThreadMXBean threadMXBean()
+    {
+        return THREAD_MX_BEAN;
+    }
+
+    /**
+     * Reads a budget or tuning value, falling back to {@code defaultValue} when it is not overridden.
+     *
+     * @param key the key below {@link #PROPERTY_PREFIX}.
+     * @param defaultValue the value used when no system property is set.
+     * @return the configured value.
+     */
+    static long longProperty(String key, long defaultValue)
+    {
+        return Long.getLong(PROPERTY_PREFIX + key, defaultValue);
+    }
+
+    /**
+     * Reads a ratio budget, falling back to {@code defaultValue} when it is not overridden.
+     *
+     * @param key the key below {@link #PROPERTY_PREFIX}.
+     * @param defaultValue the value used when no system property is set.
+     * @return the configured value.
+     */
+    static double doubleProperty(String key, double defaultValue)
+    {
+        String value = System.getProperty(PROPERTY_PREFIX + key);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * Runs {@code operation} for {@code warmup} iterations, then returns the average number of bytes the
+     * current thread allocated per call over {@code iterations} further calls.
+     *
+     * @param warmup the number of un-measured calls used to let the JIT settle.
+     * @param iterations the number of measured calls.
+     * @param operation the call under test.
+     * @return allocated bytes per call.
+     */
+    static double allocatedBytesPerCall(int warmup, int iterations, Runnable operation)
+    {
+        for(int i = 0; i < warmup; i++)
+            operation.run();
+
+        long before = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+        for(int i = 0; i < iterations; i++)
+            operation.run();
+        long after = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+
+        return (double) (after - before) / iterations;
+    }
+
+    /**
+     * Default cap of N, so that the harness does the same amount of work on a laptop and on a many-core host.
+     */
+    private static final int DEFAULT_MAX_THREADS = 8;
+
+    /**
+     * Reads N, the highest number of concurrent threads, from {@code colorfulloggerlib.harness.threads}.
+     *
+     * @return N, by default {@link Runtime#availableProcessors()} capped at {@value #DEFAULT_MAX_THREADS}.
+     */
+    static int maxThreads()
+    {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return Math.max(2, (int) longProperty("threads", Math.min(processors, DEFAULT_MAX_THREADS)));
+    }
+
+    /**
+     * Runs {@link #runConcurrently(int, boolean, boolean, int, Runnable)} at 1, 2, 4, ... threads up to {@link #maxThreads()}.
+     *
+     * @param virtual true to use virtual threads, false for platform threads.
+     * @param recordContention true to record contention of virtual threads with JFR.
+     * @param operationsPerThread the number of calls per thread.
+     * @param operation the call under test.
+     * @return one {@link ScalingResult} per thread count, the last one at {@link #maxThreads()}.
+     * @throws InterruptedException if interrupted while waiting for the workers.
+     */
+    static List<ScalingResult> runAtIncreasingThreads(boolean virtual, boolean recordContention, int operationsPerThread, Runnable operation)
+            throws InterruptedException
+    {
+        int maxThreads = maxThreads();
+        List<ScalingResult> results = new ArrayList<>();
+        for(int threads = 1; threads < maxThreads; threads *= 2)
+            results.add(runConcurrently(threads, virtual, recordContention, operationsPerThread, operation));
+        results.add(runConcurrently(maxThreads, virtual, recordContention, operationsPerThread, operation));
+        return results;
+    }
+
+    /**
+     * Runs {@code operationsPerThread} calls of {@code operation} on each of {@code threads} threads
+     * and reports throughput and how often the workers blocked on a monitor or parked.
+     * The workers are released by spinning on a flag rather than a latch, so that releasing them is not counted as a park.
+     * For virtual threads the run is recorded with JFR if {@code recordContention} is set and
+     * {@link #virtualContentionMeasurable()}, otherwise their blocked, parked and pinned counts stay 0.
+     *
+     * @param threads the number of concurrent threads.
+     * @param virtual true to use virtual threads, false for platform threads.
+     * @param recordContention true to record contention of virtual threads with JFR, which slows the run down.
+     * @param operationsPerThread the number of calls per thread.
+     * @param operation the call under test.
+     * @return the measured {@link ScalingResult}.
+     * @throws InterruptedException if interrupted while waiting for the workers.
+     */
+    static ScalingResult runConcurrently(int threads, boolean virtual, boolean recordContention, int operationsPerThread, Runnable operation)
+            throws InterruptedException
+    {
+        CountDownLatch ready = new CountDownLatch(threads);
+        AtomicBoolean start = new AtomicBoolean();
+        AtomicLong blockedCount = new AtomicLong();
+        AtomicLong blockedMillis = new AtomicLong();
+        AtomicLong waitedCount = new AtomicLong();
+        AtomicLong waitedMillis = new AtomicLong();
+        Thread.Builder builder = virtual
+                ? Thread.ofVirtual().name(VIRTUAL_WORKER_PREFIX, 0)
+                : Thread.ofPlatform().name("harness-platform-", 0);
+        Recording recording = virtual && recordContention && virtualContentionMeasurable() ? startContentionRecording() : null;
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for(int t = 0; t < threads; t++) {
+            workers.add(builder.start(() -> {
+                ready.countDown();
+                while(!start.get())
+                    Thread.yield();
+
+                // ThreadMXBean only reports on platform threads, and counts from the start of the thread.
+                ThreadInfo before = virtual ? null : THREAD_MX_BEAN.getThreadInfo(Thread.currentThread().threadId());
+                for(int i = 0; i < operationsPerThread; i++)
+                    operation.run();
+
+                if(before != null) {
+                    ThreadInfo after = THREAD_MX_BEAN.getThreadInfo(Thread.currentThread().threadId());
+                    blockedCount.addAndGet(after.getBlockedCount() - before.getBlockedCount());
+                    blockedMillis.addAndGet(Math.max(0L, after.getBlockedTime() - before.getBlockedTime()));
+                    waitedCount.addAndGet(after.getWaitedCount() - before.getWaitedCount());
+                    waitedMillis.addAndGet(Math.max(0L, after.getWaitedTime() - before.getWaitedTime()));
+                }
+            }));
+        }
+
+        ready.await();
+        long startNanos = System.nanoTime();
+        start.set(true);
+        for(Thread worker : workers)
+            worker.join();
+        long elapsedNanos = Math.max(1L, System.nanoTime() - startNanos);
+
+        long pinnedCount = 0L;
+        if(recording != null) {
+            for(RecordedEvent event : stopContentionRecording(recording)) {
+                RecordedThread thread = event.getThread();
+                if(thread == null || thread.getJavaName() == null || !thread.getJavaName().startsWith(VIRTUAL_WORKER_PREFIX))
+                    continue;
+                switch(event.getEventType().getName()) {
+                    case "jdk.VirtualThreadPinned" -> pinnedCount++;
+                    case "jdk.ThreadPark" -> {
+                        waitedCount.incrementAndGet();
+                        waitedMillis.addAndGet(event.getDuration().toMillis());
+                    }
+                    default -> {
+                        blockedCount.incrementAndGet();
+                        blockedMillis.addAndGet(event.getDuration().toMillis());
+                    }
+                }
+            }
+        }
+
+        long operations = (long) threads * operationsPerThread;
+        return new ScalingResult(
+                threads, virtual, operations,
+                operations * 1_000_000_000.0 / elapsedNanos,
+                blockedCount.get(), blockedMillis.get(), waitedCount.get(), waitedMillis.get(), pinnedCount
+        );
+    }
+
+    /**
+     * @return true if contention of virtual threads can be recorded.
+     */
+    static boolean virtualContentionMeasurable()
+    {
+        return FlightRecorder.isAvailable();
+    }
+
+    /**
+     * Starts recording every contended monitor enter, every park and every pinned virtual thread, regardless of duration.
+     */
+    private static Recording startContentionRecording()
+    {
+        Recording recording = new Recording();
+        recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ZERO).withStackTrace();
+        recording.enable("jdk.ThreadPark").withThreshold(Duration.ZERO).withStackTrace();
+        recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+        recording.setToDisk(true);
+        recording.start();
+        return recording;
+    }
+
+    private static List<RecordedEvent> stopContentionRecording(Recording recording)
+    {
+        try (recording) {
+            recording.stop();
+            Path file = Files.createTempFile("harness-contention", ".jfr");
+            try {
+                recording.dump(file);
+                return RecordingFile.readAllEvents(file);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Outcome of a single {@link #runConcurrently(int, boolean, boolean, int, Runnable)} run.
+     *
+     * @param threads the number of concurrent threads.
+     * @param virtual true if virtual threads were used.
+     * @param operations the total number of calls.
+     * @param operationsPerSecond the aggregate throughput.
+     * @param blockedCount the total number of times the workers blocked on a monitor.
+     * @param blockedMillis the total time the workers spent blocked.
+     * @param waitedCount the total number of times the workers parked, for example on a {@code java.util.concurrent} lock.
+     * @param waitedMillis the total time the workers spent parked.
+     * @param pinnedCount the number of times a virtual worker was pinned to its carrier, 0 for platform threads.
+     */
+    record ScalingResult(int threads, boolean virtual, long operations, double operationsPerSecond,
+                         long blockedCount, long blockedMillis, long waitedCount, long waitedMillis, long pinnedCount)
+    {
+        long contendedCount()
+        {
+            return blockedCount + waitedCount + pinnedCount;
+        }
+
+        double contendedPerOperation()
+        {
+            return (double) contendedCount() / operations;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%2d %s threads: %,.0f ops/s, blocked %d times (%d ms), parked %d times (%d ms), pinned %d times",
+                    threads, virtual ? "virtual" : "platform", operationsPerSecond, blockedCount, blockedMillis, waitedCount, waitedMillis, pinnedCount);
+        }
+    }
+}
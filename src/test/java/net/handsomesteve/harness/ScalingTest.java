@@ -0,0 +1,127 @@
+package net.handsomesteve.harness;
+
+import net.handsomesteve.api.ColorfulLogger;
+import net.handsomesteve.api.ansi.AnsiColorBackground;
+import net.handsomesteve.api.ansi.AnsiColorText;
+import net.handsomesteve.logger.ExceptionStringSnippets;
+import net.handsomesteve.logger.LoggerOutputSnippets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput scaling of {@link ColorfulLogger}, {@link LoggerOutputSnippets} and {@link ExceptionStringSnippets}
+ * from 1 to N platform and virtual threads. Runs are not recorded with JFR, so that recording does not skew throughput.
+ *
+ * <p>These checks depend on wall-clock time and on how busy the machine is, so they are tagged {@code performance}
+ * and only run in the {@code performanceTest} task, ideally on an otherwise idle host. The default build is gated
+ * by {@link ContentionTest} instead.</p>
+ *
+ * <p>Lock-free paths must reach {@code colorfulloggerlib.harness.scaling.efficiency} of linear scaling, that is
+ * N-thread throughput divided by single-thread throughput times {@code min(N, cores)}. Paths that go through the
+ * logging backend, which appends under a monitor, cannot scale; for them the task only checks that aggregate
+ * throughput does not collapse below {@code colorfulloggerlib.harness.scaling.backend.min} of a single thread.</p>
+ */
+@Tag("performance")
+class ScalingTest
+{
+    private static final int OPERATIONS = (int) HarnessSupport.longProperty("scaling.operations", 100_000);
+
+    /**
+     * Lowest acceptable fraction of linear scaling on a lock-free path.
+     */
+    private static final double MIN_EFFICIENCY = HarnessSupport.doubleProperty("scaling.efficiency", 0.5);
+
+    /**
+     * Lowest acceptable ratio of N-thread to single-thread throughput on a path serialized by the backend.
+     */
+    private static final double MIN_BACKEND = HarnessSupport.doubleProperty("scaling.backend.min", 0.2);
+
+    private static ColorfulLogger logger;
+
+    @BeforeAll
+    static void setUp()
+    {
+        logger = HarnessSupport.logger();
+    }
+
+    @AfterEach
+    void resetDebug()
+    {
+        logger.setDebug(true);
+    }
+
+    @Test
+    void infoWithDebugDisabledScales() throws InterruptedException
+    {
+        logger.setDebug(false);
+        assertScalesLinearly("info.disabled", () -> logger.info(
+                ">>> Scaling message", AnsiColorText.ANSI_BRIGHT_RED, AnsiColorBackground.ANSI_BLACK_BACK));
+    }
+
+    @Test
+    void exceptionSnippetsScale() throws InterruptedException
+    {
+        assertScalesLinearly("exception", () -> ExceptionStringSnippets.nonNullParamError_Snippet(
+                "identifier", "References.itemOfIdentifier(Identifier)"));
+    }
+
+    @Test
+    void infoWithDebugEnabledDoesNotCollapse() throws InterruptedException
+    {
+        assertDoesNotCollapse("info.enabled", () -> logger.info(
+                ">>> Scaling message", AnsiColorText.ANSI_BRIGHT_RED, AnsiColorBackground.ANSI_BLACK_BACK));
+    }
+
+    @Test
+    void outputSnippetsDoNotCollapse() throws InterruptedException
+    {
+        assertDoesNotCollapse("snippets", () -> LoggerOutputSnippets.registeringSnippet(
+                "Block", "example_block", false, AnsiColorText.ANSI_GREEN));
+    }
+
+    private static void assertScalesLinearly(String name, Runnable operation) throws InterruptedException
+    {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for(boolean virtual : new boolean[] { false, true }) {
+            List<HarnessSupport.ScalingResult> results = measure(name, virtual, operation);
+            HarnessSupport.ScalingResult single = results.get(0);
+            HarnessSupport.ScalingResult widest = results.get(results.size() - 1);
+            double efficiency = widest.operationsPerSecond() / (single.operationsPerSecond() * Math.min(widest.threads(), cores));
+            assertTrue(efficiency >= MIN_EFFICIENCY, () -> String.format(
+                    "'%s' reached %.2f of linear scaling on %d %s threads, below its budget of %.2f.",
+                    name, efficiency, widest.threads(), virtual ? "virtual" : "platform", MIN_EFFICIENCY));
+        }
+    }
+
+    private static void assertDoesNotCollapse(String name, Runnable operation) throws InterruptedException
+    {
+        for(boolean virtual : new boolean[] { false, true }) {
+            List<HarnessSupport.ScalingResult> results = measure(name, virtual, operation);
+            HarnessSupport.ScalingResult single = results.get(0);
+            HarnessSupport.ScalingResult widest = results.get(results.size() - 1);
+            double ratio = widest.operationsPerSecond() / single.operationsPerSecond();
+            assertTrue(ratio >= MIN_BACKEND, () -> String.format(
+                    "'%s' throughput on %d %s threads fell to %.2fx of a single thread, below its budget of %.2fx.",
+                    name, widest.threads(), virtual ? "virtual" : "platform", ratio, MIN_BACKEND));
+        }
+    }
+
+    private static List<HarnessSupport.ScalingResult> measure(String name, boolean virtual, Runnable operation)
+            throws InterruptedException
+    {
+        // Warm up on a single thread so that JIT compilation does not count against the single-thread baseline.
+        HarnessSupport.runConcurrently(1, virtual, false, OPERATIONS, operation);
+
+        List<HarnessSupport.ScalingResult> results = HarnessSupport.runAtIncreasingThreads(virtual, false, OPERATIONS, operation);
+        for(HarnessSupport.ScalingResult result : results)
+            System.out.printf("[scaling] %-14s %s%n", name, result);
+        return results;
+    }
+}